@@ -11,4 +11,13 @@ public class DecisionEngineConstants {
     public static final Integer SEGMENT_1_CREDIT_MODIFIER = 100;
     public static final Integer SEGMENT_2_CREDIT_MODIFIER = 300;
     public static final Integer SEGMENT_3_CREDIT_MODIFIER = 1000;
+
+    // Error messages returned to the client, shared by every path that produces them.
+    public static final String INVALID_PERSONAL_CODE_MESSAGE = "Invalid personal ID code!";
+    public static final String INVALID_LOAN_AMOUNT_MESSAGE = "Invalid loan amount!";
+    public static final String INVALID_LOAN_PERIOD_MESSAGE = "Invalid loan period!";
+    public static final String NO_VALID_LOAN_MESSAGE = "No valid loan found!";
+    public static final String DEADLINE_EXCEEDED_MESSAGE = "Request deadline exceeded!";
+    public static final String SERVICE_OVERLOADED_MESSAGE = "Service is overloaded!";
+    public static final String UNEXPECTED_ERROR_MESSAGE = "An unexpected error occurred";
 }
@@ -0,0 +1,129 @@
+package ee.taltech.inbankbackend.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Properties;
+
+/**
+ * Holds the loan bounds and segment credit modifiers the decision engine evaluates requests against.
+ * The current policy is built from DecisionEngineConstants, candidate policies are used by the what-if simulation.
+ */
+@Getter
+@AllArgsConstructor
+public class LoanPolicy {
+
+    public static final LoanPolicy CURRENT = new LoanPolicy("current",
+            DecisionEngineConstants.MINIMUM_LOAN_AMOUNT,
+            DecisionEngineConstants.MAXIMUM_LOAN_AMOUNT,
+            DecisionEngineConstants.MINIMUM_LOAN_PERIOD,
+            DecisionEngineConstants.MAXIMUM_LOAN_PERIOD,
+            DecisionEngineConstants.SEGMENT_1_CREDIT_MODIFIER,
+            DecisionEngineConstants.SEGMENT_2_CREDIT_MODIFIER,
+            DecisionEngineConstants.SEGMENT_3_CREDIT_MODIFIER);
+
+    private final String name;
+    private final int minimumLoanAmount;
+    private final int maximumLoanAmount;
+    private final int minimumLoanPeriod;
+    private final int maximumLoanPeriod;
+    private final int segment1CreditModifier;
+    private final int segment2CreditModifier;
+    private final int segment3CreditModifier;
+
+    /**
+     * Creates a policy that takes every value from this one unless it is overridden.
+     * The override keys are the names of the corresponding DecisionEngineConstants fields,
+     * for example SEGMENT_1_CREDIT_MODIFIER=120.
+     *
+     * @param name Name of the new policy
+     * @param overrides Values to override
+     * @return A new policy with the overrides applied
+     * @throws IllegalArgumentException If an override key is unknown, its value is not a number
+     * or the resulting policy is inconsistent
+     */
+    public LoanPolicy withOverrides(String name, Properties overrides) {
+        for (String key : overrides.stringPropertyNames()) {
+            if (!isKnownKey(key)) {
+                throw new IllegalArgumentException("Unknown policy key: " + key);
+            }
+        }
+
+        LoanPolicy policy = new LoanPolicy(name,
+                override(overrides, "MINIMUM_LOAN_AMOUNT", minimumLoanAmount),
+                override(overrides, "MAXIMUM_LOAN_AMOUNT", maximumLoanAmount),
+                override(overrides, "MINIMUM_LOAN_PERIOD", minimumLoanPeriod),
+                override(overrides, "MAXIMUM_LOAN_PERIOD", maximumLoanPeriod),
+                override(overrides, "SEGMENT_1_CREDIT_MODIFIER", segment1CreditModifier),
+                override(overrides, "SEGMENT_2_CREDIT_MODIFIER", segment2CreditModifier),
+                override(overrides, "SEGMENT_3_CREDIT_MODIFIER", segment3CreditModifier));
+        policy.verify();
+        return policy;
+    }
+
+    /**
+     * Creates a conservative variant of this policy in which every segment gets the credit modifier of segment 1.
+     *
+     * @return A new policy with the minimum segment credit modifier for every segment
+     */
+    public LoanPolicy withMinimumSegment() {
+        return new LoanPolicy(name + "-minimum-segment", minimumLoanAmount, maximumLoanAmount,
+                minimumLoanPeriod, maximumLoanPeriod,
+                segment1CreditModifier, segment1CreditModifier, segment1CreditModifier);
+    }
+
+    /**
+     * Returns the credit modifier of the given segment.
+     *
+     * @param segment Segment of the customer, 0 for customers with debt
+     * @return Credit modifier of the segment, 0 if no loan can be given
+     */
+    public int getCreditModifier(int segment) {
+        return switch (segment) {
+            case 1 -> segment1CreditModifier;
+            case 2 -> segment2CreditModifier;
+            case 3 -> segment3CreditModifier;
+            default -> 0;
+        };
+    }
+
+    /**
+     * Verifies that the loan bounds are positive and ordered and that no credit modifier is negative.
+     *
+     * @throws IllegalArgumentException If the policy is inconsistent
+     */
+    private void verify() {
+        if (minimumLoanAmount <= 0 || minimumLoanAmount > maximumLoanAmount) {
+            throw new IllegalArgumentException("Invalid loan amount bounds in policy " + name + ": "
+                    + minimumLoanAmount + "..." + maximumLoanAmount);
+        }
+        if (minimumLoanPeriod <= 0 || minimumLoanPeriod > maximumLoanPeriod) {
+            throw new IllegalArgumentException("Invalid loan period bounds in policy " + name + ": "
+                    + minimumLoanPeriod + "..." + maximumLoanPeriod);
+        }
+        if (segment1CreditModifier < 0 || segment2CreditModifier < 0 || segment3CreditModifier < 0) {
+            throw new IllegalArgumentException("Negative credit modifier in policy " + name);
+        }
+    }
+
+    private static boolean isKnownKey(String key) {
+        return switch (key) {
+            case "MINIMUM_LOAN_AMOUNT", "MAXIMUM_LOAN_AMOUNT", "MINIMUM_LOAN_PERIOD", "MAXIMUM_LOAN_PERIOD",
+                    "SEGMENT_1_CREDIT_MODIFIER", "SEGMENT_2_CREDIT_MODIFIER", "SEGMENT_3_CREDIT_MODIFIER" -> true;
+            default -> false;
+        };
+    }
+
+    private static int override(Properties overrides, String key, int value) {
+        String override = overrides.getProperty(key);
+        if (override == null) {
+            return value;
+        }
+
+        try {
+            return Integer.parseInt(override.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for policy key " + key + ": " + override, e);
+        }
+    }
+}
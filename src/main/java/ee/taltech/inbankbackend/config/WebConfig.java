@@ -0,0 +1,37 @@
+package ee.taltech.inbankbackend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ee.taltech.inbankbackend.endpoint.DecisionRequestReader;
+import ee.taltech.inbankbackend.endpoint.DecisionResponseWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Registers the web layer customizations of the decision engine.
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    WebConfig(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Puts the DecisionRequestReader and DecisionResponseWriter in front of Jackson, so invalid decision requests
+     * are rejected while they are read and decision responses skip general-purpose serialization.
+     *
+     * @param converters Message converters configured by Spring Boot
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new DecisionRequestReader(objectMapper));
+        converters.add(1, new DecisionResponseWriter());
+    }
+}
@@ -1,32 +1,50 @@
 package ee.taltech.inbankbackend.endpoint;
 
+import ee.taltech.inbankbackend.config.DecisionEngineConstants;
+import ee.taltech.inbankbackend.exceptions.DeadlineExceededException;
 import ee.taltech.inbankbackend.exceptions.InvalidLoanAmountException;
 import ee.taltech.inbankbackend.exceptions.InvalidLoanPeriodException;
 import ee.taltech.inbankbackend.exceptions.InvalidPersonalCodeException;
 import ee.taltech.inbankbackend.exceptions.NoValidLoanException;
+import ee.taltech.inbankbackend.exceptions.ServiceOverloadedException;
+import ee.taltech.inbankbackend.service.Deadline;
 import ee.taltech.inbankbackend.service.Decision;
-import ee.taltech.inbankbackend.service.DecisionEngine;
+import ee.taltech.inbankbackend.service.DecisionWorkQueue;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.Duration;
+
 @RestController
 @RequestMapping("/loan")
 @CrossOrigin
 public class DecisionEngineController {
 
-    private final DecisionEngine decisionEngine;
+    // Header with the number of milliseconds the client is willing to wait for a decision.
+    static final String TIMEOUT_HEADER = "X-Request-Timeout";
+
+    private final DecisionWorkQueue workQueue;
     private final DecisionResponse response;
+    private final Duration defaultTimeout;
+    private final boolean degradedFallback;
 
     @Autowired
-    DecisionEngineController(DecisionEngine decisionEngine, DecisionResponse response) {
-        this.decisionEngine = decisionEngine;
+    DecisionEngineController(DecisionWorkQueue workQueue, DecisionResponse response,
+                             @Value("${decision.timeout:1s}") Duration defaultTimeout,
+                             @Value("${decision.degraded-fallback:false}") boolean degradedFallback) {
+        this.workQueue = workQueue;
         this.response = response;
+        this.defaultTimeout = defaultTimeout;
+        this.degradedFallback = degradedFallback;
     }
 
     /**
@@ -37,39 +55,102 @@ public class DecisionEngineController {
      * - If the personal ID code is invalid, the endpoint returns a bad request response with an error message.<br>
      * - If an unexpected error occurs, the endpoint returns an internal server error response with an error message.<br>
      * - If no valid loans can be found, the endpoint returns a not found response with an error message.<br>
+     * - If the decision cannot be made before the deadline or the service is overloaded, the endpoint returns
+     * a service unavailable response with an error message, or a conservative decision marked as degraded
+     * if the degraded fallback is enabled and one of its permits is free.<br>
      * - If a valid loan is found, a DecisionResponse is returned containing the approved loan amount and period.
      *
      * @param request The request body containing the customer's personal ID code, requested loan amount, and loan period
+     * @param timeout Milliseconds the client is willing to wait for the decision, at most the configured timeout
      * @return A ResponseEntity with a DecisionResponse body containing the approved loan amount and period, and an error message (if any)
      */
     @PostMapping("/decision")
-    public ResponseEntity<DecisionResponse> requestDecision(@RequestBody DecisionRequest request) {
+    public ResponseEntity<DecisionResponse> requestDecision(@RequestBody DecisionRequest request,
+                                                            @RequestHeader(value = TIMEOUT_HEADER, required = false)
+                                                            String timeout) {
         try {
-            Decision decision = decisionEngine.
-                    calculateApprovedLoan(request.getPersonalCode(), request.getLoanAmount(), request.getLoanPeriod());
+            Decision decision;
+            try {
+                decision = workQueue.calculateApprovedLoan(request.getPersonalCode(), request.getLoanAmount(),
+                        request.getLoanPeriod(), Deadline.after(getTimeout(timeout)));
+            } catch (DeadlineExceededException | ServiceOverloadedException e) {
+                if (!degradedFallback) {
+                    throw e;
+                }
+                decision = workQueue.calculateDegradedLoan(request.getPersonalCode(), request.getLoanAmount(),
+                        request.getLoanPeriod());
+            }
             response.setLoanAmount(decision.getLoanAmount());
             response.setLoanPeriod(decision.getLoanPeriod());
             response.setErrorMessage(decision.getErrorMessage());
+            response.setDegraded(decision.isDegraded());
 
             return ResponseEntity.ok(response);
         } catch (InvalidPersonalCodeException | InvalidLoanAmountException | InvalidLoanPeriodException e) {
             response.setLoanAmount(null);
             response.setLoanPeriod(null);
             response.setErrorMessage(e.getMessage());
+            response.setDegraded(false);
 
             return ResponseEntity.badRequest().body(response);
         } catch (NoValidLoanException e) {
             response.setLoanAmount(null);
             response.setLoanPeriod(null);
             response.setErrorMessage(e.getMessage());
+            response.setDegraded(false);
 
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        } catch (DeadlineExceededException | ServiceOverloadedException e) {
+            response.setLoanAmount(null);
+            response.setLoanPeriod(null);
+            response.setErrorMessage(e.getMessage());
+            response.setDegraded(false);
+
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
         } catch (Exception e) {
             response.setLoanAmount(null);
             response.setLoanPeriod(null);
-            response.setErrorMessage("An unexpected error occurred");
+            response.setErrorMessage(DecisionEngineConstants.UNEXPECTED_ERROR_MESSAGE);
+            response.setDegraded(false);
 
             return ResponseEntity.internalServerError().body(response);
         }
     }
+
+    /**
+     * Handles requests rejected by the DecisionRequestReader while they were read.
+     * Like a request rejected by the decision engine, it is answered with a bad request status.
+     *
+     * @param e Exception holding the error message of the first invalid field
+     * @return A bad request ResponseEntity with a DecisionResponse body containing the error message
+     */
+    @ExceptionHandler(RejectedDecisionRequestException.class)
+    public ResponseEntity<DecisionResponse> handleRejectedRequest(RejectedDecisionRequestException e) {
+        response.setLoanAmount(null);
+        response.setLoanPeriod(null);
+        response.setErrorMessage(e.getMessage());
+        response.setDegraded(false);
+
+        return ResponseEntity.badRequest().body(response);
+    }
+
+    /**
+     * Takes the timeout from the request header if it holds a positive number of milliseconds.
+     * The header can only shorten the configured timeout, never extend it.
+     *
+     * @param timeout Value of the timeout header, null if absent
+     * @return Time left to make the decision
+     */
+    private Duration getTimeout(String timeout) {
+        if (timeout == null) {
+            return defaultTimeout;
+        }
+
+        try {
+            long millis = Long.parseLong(timeout.trim());
+            return millis > 0 && millis < defaultTimeout.toMillis() ? Duration.ofMillis(millis) : defaultTimeout;
+        } catch (NumberFormatException e) {
+            return defaultTimeout;
+        }
+    }
 }
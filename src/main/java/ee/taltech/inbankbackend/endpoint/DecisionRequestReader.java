@@ -0,0 +1,280 @@
+package ee.taltech.inbankbackend.endpoint;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.vladislavgoltjajev.personalcode.locale.estonia.EstonianPersonalCodeValidator;
+import ee.taltech.inbankbackend.config.DecisionEngineConstants;
+import ee.taltech.inbankbackend.config.LoanPolicy;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.lang.NonNull;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Reads a DecisionRequest token by token straight from the request body and checks every field as soon as it
+ * has been read. A request that the decision engine would reject is refused at the first failing field with the
+ * same error message, without reading the rest of the body. Anything unusual, such as unknown or missing fields,
+ * numbers given as strings or malformed JSON, falls back to normal Jackson binding.
+ * Duplicate fields are a parse error on both paths, so a request with a duplicate field is never approved,
+ * although it may be rejected for an invalid field that comes before the duplicate.
+ * Bodies larger than MAXIMUM_BODY_SIZE are refused.
+ */
+public class DecisionRequestReader extends AbstractHttpMessageConverter<DecisionRequest> {
+
+    private static final int PERSONAL_CODE_LENGTH = 11;
+    // Valid requests are below a hundred bytes, this leaves room for whitespace and unusual formatting.
+    static final int MAXIMUM_BODY_SIZE = 1024;
+
+    private final ObjectMapper objectMapper;
+    // Used to check for the validity of the presented ID code.
+    private final EstonianPersonalCodeValidator validator = new EstonianPersonalCodeValidator();
+
+    public DecisionRequestReader(ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean supports(@NonNull Class<?> clazz) {
+        return DecisionRequest.class == clazz;
+    }
+
+    /**
+     * Requests are never written by the service, this converter only handles the reading side.
+     */
+    @Override
+    protected boolean canWrite(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected void writeInternal(@NonNull DecisionRequest request, @NonNull HttpOutputMessage outputMessage) {
+        throw new HttpMessageNotWritableException("DecisionRequest cannot be written");
+    }
+
+    @Override
+    @NonNull
+    protected DecisionRequest readInternal(@NonNull Class<? extends DecisionRequest> clazz,
+                                           @NonNull HttpInputMessage inputMessage) throws IOException {
+        BoundedBody body = new BoundedBody(inputMessage);
+
+        DecisionRequest request;
+        try {
+            request = readFast(body, inputMessage);
+        } catch (JsonProcessingException e) {
+            request = null;
+        }
+        if (request != null) {
+            return request;
+        }
+
+        // The rest of the body is only read when the fast path gives up, still bounded by the maximum body size.
+        try {
+            return objectMapper.readerFor(DecisionRequest.class)
+                    .with(JsonParser.Feature.STRICT_DUPLICATE_DETECTION)
+                    .readValue(body.readAll());
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotReadableException("JSON parse error: " + e.getOriginalMessage(), e, inputMessage);
+        }
+    }
+
+    /**
+     * Reads the request on the fast path.
+     *
+     * @param body Request body
+     * @param inputMessage Message the body was read from
+     * @return The request, or null if it has to be bound normally
+     * @throws RejectedDecisionRequestException If a field is invalid
+     * @throws IOException If the body is not valid JSON or too large
+     */
+    private DecisionRequest readFast(BoundedBody body, HttpInputMessage inputMessage) throws IOException {
+        String personalCode = null;
+        long loanAmount = 0;
+        int loanPeriod = 0;
+        FieldState personalCodeState = FieldState.UNSEEN;
+        FieldState loanAmountState = FieldState.UNSEEN;
+        FieldState loanPeriodState = FieldState.UNSEEN;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            parser.enable(JsonParser.Feature.STRICT_DUPLICATE_DETECTION);
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+
+                switch (field) {
+                    case "personalCode" -> {
+                        if (personalCodeState != FieldState.UNSEEN || value != JsonToken.VALUE_STRING) {
+                            return null;
+                        }
+                        personalCode = parser.getText();
+                        personalCodeState = isValidPersonalCode(personalCode) ? FieldState.VALID : FieldState.INVALID;
+                    }
+                    case "loanAmount" -> {
+                        if (loanAmountState != FieldState.UNSEEN || !isIntegral(parser, value)) {
+                            return null;
+                        }
+                        loanAmount = parser.getLongValue();
+                        loanAmountState = LoanPolicy.CURRENT.getMinimumLoanAmount() <= loanAmount
+                                && loanAmount <= LoanPolicy.CURRENT.getMaximumLoanAmount()
+                                ? FieldState.VALID : FieldState.INVALID;
+                    }
+                    case "loanPeriod" -> {
+                        if (loanPeriodState != FieldState.UNSEEN || !isIntegral(parser, value)
+                                || parser.getNumberType() != JsonParser.NumberType.INT) {
+                            return null;
+                        }
+                        loanPeriod = parser.getIntValue();
+                        loanPeriodState = LoanPolicy.CURRENT.getMinimumLoanPeriod() <= loanPeriod
+                                && loanPeriod <= LoanPolicy.CURRENT.getMaximumLoanPeriod()
+                                ? FieldState.VALID : FieldState.INVALID;
+                    }
+                    default -> {
+                        return null;
+                    }
+                }
+
+                String errorMessage = getErrorMessage(personalCodeState, loanAmountState, loanPeriodState);
+                if (errorMessage != null) {
+                    throw new RejectedDecisionRequestException(errorMessage, inputMessage);
+                }
+            }
+
+            if (parser.currentToken() != JsonToken.END_OBJECT || personalCodeState == FieldState.UNSEEN
+                    || loanAmountState == FieldState.UNSEEN || loanPeriodState == FieldState.UNSEEN) {
+                return null;
+            }
+        }
+
+        return new DecisionRequest(personalCode, loanAmount, loanPeriod);
+    }
+
+    /**
+     * Returns the error message the decision engine would respond with, as soon as it can be determined.
+     * The engine checks the personal code first, then the loan amount and then the loan period, so a failing field
+     * only decides the outcome once all fields checked before it have been read and found valid.
+     *
+     * @return The error message, or null if the request is valid so far
+     */
+    private static String getErrorMessage(FieldState personalCode, FieldState loanAmount, FieldState loanPeriod) {
+        if (personalCode == FieldState.INVALID) {
+            return DecisionEngineConstants.INVALID_PERSONAL_CODE_MESSAGE;
+        }
+        if (personalCode != FieldState.VALID) {
+            return null;
+        }
+        if (loanAmount == FieldState.INVALID) {
+            return DecisionEngineConstants.INVALID_LOAN_AMOUNT_MESSAGE;
+        }
+        if (loanAmount != FieldState.VALID) {
+            return null;
+        }
+        if (loanPeriod == FieldState.INVALID) {
+            return DecisionEngineConstants.INVALID_LOAN_PERIOD_MESSAGE;
+        }
+        return null;
+    }
+
+    /**
+     * Checks the length and characters of the personal code before running the full validation.
+     */
+    private boolean isValidPersonalCode(String personalCode) {
+        if (personalCode.length() != PERSONAL_CODE_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < personalCode.length(); i++) {
+            char c = personalCode.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return validator.isValid(personalCode);
+    }
+
+    private static boolean isIntegral(JsonParser parser, JsonToken value) throws IOException {
+        return value == JsonToken.VALUE_NUMBER_INT && parser.getNumberType() != JsonParser.NumberType.BIG_INTEGER;
+    }
+
+    /**
+     * Request body that remembers the bytes read so far, so they can be bound normally after the fast path gave up.
+     * Reading more than MAXIMUM_BODY_SIZE bytes fails, and closing it leaves the request stream to the container.
+     */
+    private static final class BoundedBody extends FilterInputStream {
+        private final HttpInputMessage inputMessage;
+        private byte[] bytes = new byte[128];
+        private int length;
+
+        private BoundedBody(HttpInputMessage inputMessage) throws IOException {
+            super(inputMessage.getBody());
+            this.inputMessage = inputMessage;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] buffer = new byte[1];
+            return read(buffer, 0, 1) < 0 ? -1 : buffer[0] & 0xFF;
+        }
+
+        @Override
+        public int read(@NonNull byte[] buffer, int offset, int count) throws IOException {
+            int read = super.read(buffer, offset, Math.min(count, MAXIMUM_BODY_SIZE + 1 - length));
+            if (read > 0) {
+                record(buffer, offset, read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long count) throws IOException {
+            int size = (int) Math.min(Math.max(count, 0), MAXIMUM_BODY_SIZE + 1L);
+            return Math.max(read(new byte[size], 0, size), 0);
+        }
+
+        @Override
+        public void close() {
+        }
+
+        /**
+         * Reads the rest of the body.
+         *
+         * @return The whole body
+         * @throws IOException If the body cannot be read or is too large
+         */
+        private byte[] readAll() throws IOException {
+            byte[] buffer = new byte[256];
+            while (read(buffer, 0, buffer.length) >= 0) {
+                // Reading records the bytes.
+            }
+            return Arrays.copyOf(bytes, length);
+        }
+
+        private void record(byte[] buffer, int offset, int count) {
+            if (length + count > MAXIMUM_BODY_SIZE) {
+                throw new HttpMessageNotReadableException("Request body too large", inputMessage);
+            }
+            if (length + count > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + count));
+            }
+            System.arraycopy(buffer, offset, bytes, length, count);
+            length += count;
+        }
+    }
+
+    private enum FieldState {
+        UNSEEN,
+        VALID,
+        INVALID
+    }
+}
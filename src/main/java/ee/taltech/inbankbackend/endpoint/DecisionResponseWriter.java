@@ -0,0 +1,207 @@
+package ee.taltech.inbankbackend.endpoint;
+
+import ee.taltech.inbankbackend.config.DecisionEngineConstants;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.NonNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Writes a DecisionResponse as JSON straight into a reusable per-thread byte buffer.
+ * The response only ever has four fields, so the field names and the fixed error messages are
+ * encoded once up front and copied into the buffer instead of going through general-purpose serialization.
+ * The output is identical to what Jackson produces for a DecisionResponse, including the field order.
+ */
+public class DecisionResponseWriter extends AbstractHttpMessageConverter<DecisionResponse> {
+
+    private static final byte[] LOAN_AMOUNT_FIELD = ascii("{\"loanAmount\":");
+    private static final byte[] LOAN_PERIOD_FIELD = ascii(",\"loanPeriod\":");
+    private static final byte[] ERROR_MESSAGE_FIELD = ascii(",\"errorMessage\":");
+    private static final byte[] NULL_ERROR_MESSAGE = ascii(",\"errorMessage\":null");
+    private static final byte[] DEGRADED_TAIL = ascii(",\"degraded\":true}");
+    private static final byte[] NOT_DEGRADED_TAIL = ascii(",\"degraded\":false}");
+    private static final byte[] NULL = ascii("null");
+
+    // Pre-encoded `,"errorMessage":"..."` fragments for every error message the service returns.
+    private static final Map<String, byte[]> ERROR_MESSAGES = Stream.of(
+                    DecisionEngineConstants.INVALID_PERSONAL_CODE_MESSAGE,
+                    DecisionEngineConstants.INVALID_LOAN_AMOUNT_MESSAGE,
+                    DecisionEngineConstants.INVALID_LOAN_PERIOD_MESSAGE,
+                    DecisionEngineConstants.NO_VALID_LOAN_MESSAGE,
+                    DecisionEngineConstants.DEADLINE_EXCEEDED_MESSAGE,
+                    DecisionEngineConstants.SERVICE_OVERLOADED_MESSAGE,
+                    DecisionEngineConstants.UNEXPECTED_ERROR_MESSAGE)
+            .collect(Collectors.toUnmodifiableMap(Function.identity(), DecisionResponseWriter::errorMessage));
+
+    private static final int INITIAL_BUFFER_SIZE = 128;
+
+    private final ThreadLocal<Buffer> buffers = ThreadLocal.withInitial(() -> new Buffer(INITIAL_BUFFER_SIZE));
+
+    public DecisionResponseWriter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(@NonNull Class<?> clazz) {
+        return DecisionResponse.class == clazz;
+    }
+
+    /**
+     * Requests are still bound by Jackson, this converter only handles the writing side.
+     */
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    @NonNull
+    protected DecisionResponse readInternal(@NonNull Class<? extends DecisionResponse> clazz,
+                                            @NonNull HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("DecisionResponse cannot be read", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(@NonNull DecisionResponse response, @NonNull HttpOutputMessage outputMessage)
+            throws IOException {
+        Buffer buffer = encode(response);
+        outputMessage.getBody().write(buffer.bytes, 0, buffer.length);
+    }
+
+    /**
+     * Encodes the response into the buffer of the current thread.
+     * The result is only valid until the next call on the same thread.
+     *
+     * @param response Response to encode
+     * @return The current thread's buffer holding the encoded response
+     */
+    Buffer encode(DecisionResponse response) {
+        Buffer buffer = buffers.get();
+        buffer.length = 0;
+
+        buffer.append(LOAN_AMOUNT_FIELD);
+        buffer.appendInteger(response.getLoanAmount());
+        buffer.append(LOAN_PERIOD_FIELD);
+        buffer.appendInteger(response.getLoanPeriod());
+
+        String errorMessage = response.getErrorMessage();
+        byte[] encodedErrorMessage = errorMessage == null ? NULL_ERROR_MESSAGE : ERROR_MESSAGES.get(errorMessage);
+        if (encodedErrorMessage != null) {
+            buffer.append(encodedErrorMessage);
+        } else {
+            buffer.append(ERROR_MESSAGE_FIELD);
+            buffer.append(quote(errorMessage).getBytes(StandardCharsets.UTF_8));
+        }
+
+        buffer.append(response.isDegraded() ? DEGRADED_TAIL : NOT_DEGRADED_TAIL);
+        return buffer;
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[] errorMessage(String errorMessage) {
+        return (",\"errorMessage\":" + quote(errorMessage)).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Quotes the given string as a JSON string literal.
+     *
+     * @param value String to quote
+     * @return The escaped value surrounded by double quotes
+     */
+    static String quote(String value) {
+        StringBuilder builder = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\b' -> builder.append("\\b");
+                case '\f' -> builder.append("\\f");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                case '\t' -> builder.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        builder.append(String.format("\\u%04X", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+                }
+            }
+        }
+        return builder.append('"').toString();
+    }
+
+    /**
+     * Growable byte buffer that is kept per thread and reused between responses.
+     */
+    static final class Buffer {
+        private byte[] bytes;
+        private int length;
+
+        private Buffer(int capacity) {
+            bytes = new byte[capacity];
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, length);
+        }
+
+        private void append(byte[] fragment) {
+            ensureCapacity(fragment.length);
+            System.arraycopy(fragment, 0, bytes, length, fragment.length);
+            length += fragment.length;
+        }
+
+        private void append(byte value) {
+            ensureCapacity(1);
+            bytes[length++] = value;
+        }
+
+        private void appendInteger(Integer value) {
+            if (value == null) {
+                append(NULL);
+                return;
+            }
+
+            long remaining = value;
+            if (remaining < 0) {
+                append((byte) '-');
+                remaining = -remaining;
+            }
+
+            // Integer.MIN_VALUE has at most 10 digits once negated.
+            ensureCapacity(10);
+            int start = length;
+            do {
+                bytes[length++] = (byte) ('0' + remaining % 10);
+                remaining /= 10;
+            } while (remaining > 0);
+
+            for (int i = start, j = length - 1; i < j; i++, j--) {
+                byte digit = bytes[i];
+                bytes[i] = bytes[j];
+                bytes[j] = digit;
+            }
+        }
+
+        private void ensureCapacity(int additional) {
+            if (length + additional > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + additional));
+            }
+        }
+    }
+}
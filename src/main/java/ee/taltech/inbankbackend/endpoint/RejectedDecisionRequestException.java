@@ -0,0 +1,15 @@
+package ee.taltech.inbankbackend.endpoint;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+/**
+ * Thrown by the DecisionRequestReader when a field of the request is invalid.
+ * The message is the same error message the decision engine returns for the field.
+ */
+public class RejectedDecisionRequestException extends HttpMessageNotReadableException {
+
+    public RejectedDecisionRequestException(String message, HttpInputMessage inputMessage) {
+        super(message, inputMessage);
+    }
+}
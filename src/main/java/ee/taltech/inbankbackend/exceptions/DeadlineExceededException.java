@@ -0,0 +1,28 @@
+package ee.taltech.inbankbackend.exceptions;
+
+/**
+ * Thrown when a request can no longer be answered before its deadline.
+ */
+public class DeadlineExceededException extends Throwable {
+    private final String message;
+    private final Throwable cause;
+
+    public DeadlineExceededException(String message) {
+        this(message, null);
+    }
+
+    public DeadlineExceededException(String message, Throwable cause) {
+        this.message = message;
+        this.cause = cause;
+    }
+
+    @Override
+    public Throwable getCause() {
+        return cause;
+    }
+
+    @Override
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,28 @@
+package ee.taltech.inbankbackend.exceptions;
+
+/**
+ * Thrown when the decision work queue is full and the request cannot be accepted.
+ */
+public class ServiceOverloadedException extends Throwable {
+    private final String message;
+    private final Throwable cause;
+
+    public ServiceOverloadedException(String message) {
+        this(message, null);
+    }
+
+    public ServiceOverloadedException(String message, Throwable cause) {
+        this.message = message;
+        this.cause = cause;
+    }
+
+    @Override
+    public Throwable getCause() {
+        return cause;
+    }
+
+    @Override
+    public String getMessage() {
+        return message;
+    }
+}
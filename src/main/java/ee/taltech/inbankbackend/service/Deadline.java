@@ -0,0 +1,67 @@
+package ee.taltech.inbankbackend.service;
+
+import ee.taltech.inbankbackend.config.DecisionEngineConstants;
+import ee.taltech.inbankbackend.exceptions.DeadlineExceededException;
+
+import java.time.Duration;
+
+/**
+ * Point in time by which a decision has to be made, carried through the evaluation of a request.
+ */
+public final class Deadline {
+
+    /**
+     * A deadline that never expires.
+     */
+    public static final Deadline NONE = new Deadline(0, false);
+
+    // Longest timeout for which the expiry time can be counted in nanoseconds without overflowing.
+    private static final Duration MAXIMUM_TIMEOUT = Duration.ofNanos(Long.MAX_VALUE / 2);
+
+    private final long expiresAtNanos;
+    private final boolean bounded;
+
+    private Deadline(long expiresAtNanos, boolean bounded) {
+        this.expiresAtNanos = expiresAtNanos;
+        this.bounded = bounded;
+    }
+
+    /**
+     * Creates a deadline that expires after the given timeout, counted from now.
+     * Timeouts too long to count in nanoseconds saturate to a deadline that never expires.
+     *
+     * @param timeout Time left to make the decision
+     * @return A new deadline
+     */
+    public static Deadline after(Duration timeout) {
+        if (timeout.compareTo(MAXIMUM_TIMEOUT) > 0) {
+            return NONE;
+        }
+        return new Deadline(System.nanoTime() + timeout.toNanos(), true);
+    }
+
+    /**
+     * @return Nanoseconds left until the deadline, 0 once it has expired
+     */
+    public long remainingNanos() {
+        if (!bounded) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, expiresAtNanos - System.nanoTime());
+    }
+
+    public boolean isExpired() {
+        return remainingNanos() == 0;
+    }
+
+    /**
+     * Verifies that the deadline can still be met.
+     *
+     * @throws DeadlineExceededException If the deadline has expired
+     */
+    public void check() throws DeadlineExceededException {
+        if (isExpired()) {
+            throw new DeadlineExceededException(DecisionEngineConstants.DEADLINE_EXCEEDED_MESSAGE);
+        }
+    }
+}
@@ -12,4 +12,10 @@ public class Decision {
     private final Integer loanAmount;
     private final Integer loanPeriod;
     private final String errorMessage;
+    // Set when the decision is a conservative fallback made while the service was overloaded.
+    private final boolean degraded;
+
+    public Decision(Integer loanAmount, Integer loanPeriod, String errorMessage) {
+        this(loanAmount, loanPeriod, errorMessage, false);
+    }
 }
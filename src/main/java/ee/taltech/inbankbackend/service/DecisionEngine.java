@@ -2,6 +2,8 @@ package ee.taltech.inbankbackend.service;
 
 import com.github.vladislavgoltjajev.personalcode.locale.estonia.EstonianPersonalCodeValidator;
 import ee.taltech.inbankbackend.config.DecisionEngineConstants;
+import ee.taltech.inbankbackend.config.LoanPolicy;
+import ee.taltech.inbankbackend.exceptions.DeadlineExceededException;
 import ee.taltech.inbankbackend.exceptions.InvalidLoanAmountException;
 import ee.taltech.inbankbackend.exceptions.InvalidLoanPeriodException;
 import ee.taltech.inbankbackend.exceptions.InvalidPersonalCodeException;
@@ -16,9 +18,11 @@ import org.springframework.stereotype.Service;
 @Service
 public class DecisionEngine {
 
+    // Used for conservative decisions while the service is overloaded.
+    private static final LoanPolicy DEGRADED_POLICY = LoanPolicy.CURRENT.withMinimumSegment();
+
     // Used to check for the validity of the presented ID code.
     private final EstonianPersonalCodeValidator validator = new EstonianPersonalCodeValidator();
-    private int creditModifier = 0;
 
     /**
      * Calculates the maximum loan amount and period for the customer based on their ID code,
@@ -38,63 +42,140 @@ public class DecisionEngine {
     public Decision calculateApprovedLoan(String personalCode, Long loanAmount, int loanPeriod)
             throws InvalidPersonalCodeException, InvalidLoanAmountException, InvalidLoanPeriodException,
             NoValidLoanException {
+        return calculateApprovedLoan(personalCode, loanAmount, loanPeriod, LoanPolicy.CURRENT);
+    }
+
+    /**
+     * Calculates the maximum loan amount and period for the customer like
+     * {@link #calculateApprovedLoan(String, Long, int)}, but against the given policy instead of the current one.
+     *
+     * @param personalCode ID code of the customer that made the request.
+     * @param loanAmount Requested loan amount
+     * @param loanPeriod Requested loan period
+     * @param policy Loan bounds and credit modifiers to evaluate the request against
+     * @return A Decision object containing the approved loan amount and period, and an error message (if any)
+     * @throws InvalidPersonalCodeException If the provided personal ID code is invalid
+     * @throws InvalidLoanAmountException If the requested loan amount is invalid
+     * @throws InvalidLoanPeriodException If the requested loan period is invalid
+     * @throws NoValidLoanException If there is no valid loan found for the given ID code, loan amount and loan period
+     */
+    public Decision calculateApprovedLoan(String personalCode, Long loanAmount, int loanPeriod, LoanPolicy policy)
+            throws InvalidPersonalCodeException, InvalidLoanAmountException, InvalidLoanPeriodException,
+            NoValidLoanException {
+        try {
+            return evaluate(personalCode, loanAmount, loanPeriod, policy, Deadline.NONE);
+        } catch (DeadlineExceededException e) {
+            throw new IllegalStateException("A request without a deadline cannot exceed it", e);
+        }
+    }
+
+    /**
+     * Calculates the maximum loan amount and period for the customer like
+     * {@link #calculateApprovedLoan(String, Long, int)}, but gives up as soon as the deadline has expired.
+     *
+     * @param personalCode ID code of the customer that made the request.
+     * @param loanAmount Requested loan amount
+     * @param loanPeriod Requested loan period
+     * @param deadline Point in time by which the decision has to be made
+     * @return A Decision object containing the approved loan amount and period, and an error message (if any)
+     * @throws InvalidPersonalCodeException If the provided personal ID code is invalid
+     * @throws InvalidLoanAmountException If the requested loan amount is invalid
+     * @throws InvalidLoanPeriodException If the requested loan period is invalid
+     * @throws NoValidLoanException If there is no valid loan found for the given ID code, loan amount and loan period
+     * @throws DeadlineExceededException If the deadline expired before the decision was made
+     */
+    public Decision calculateApprovedLoan(String personalCode, Long loanAmount, int loanPeriod, Deadline deadline)
+            throws InvalidPersonalCodeException, InvalidLoanAmountException, InvalidLoanPeriodException,
+            NoValidLoanException, DeadlineExceededException {
+        return evaluate(personalCode, loanAmount, loanPeriod, LoanPolicy.CURRENT, deadline);
+    }
+
+    /**
+     * Calculates a conservative loan decision for when the service is overloaded.
+     * Every customer without debt is treated as if they belonged to the minimum segment.
+     *
+     * @param personalCode ID code of the customer that made the request.
+     * @param loanAmount Requested loan amount
+     * @param loanPeriod Requested loan period
+     * @return A Decision object marked as degraded
+     * @throws InvalidPersonalCodeException If the provided personal ID code is invalid
+     * @throws InvalidLoanAmountException If the requested loan amount is invalid
+     * @throws InvalidLoanPeriodException If the requested loan period is invalid
+     * @throws NoValidLoanException If there is no valid loan found for the given ID code, loan amount and loan period
+     */
+    public Decision calculateDegradedLoan(String personalCode, Long loanAmount, int loanPeriod)
+            throws InvalidPersonalCodeException, InvalidLoanAmountException, InvalidLoanPeriodException,
+            NoValidLoanException {
+        Decision decision = calculateApprovedLoan(personalCode, loanAmount, loanPeriod, DEGRADED_POLICY);
+        return new Decision(decision.getLoanAmount(), decision.getLoanPeriod(), decision.getErrorMessage(), true);
+    }
+
+    private Decision evaluate(String personalCode, Long loanAmount, int loanPeriod, LoanPolicy policy,
+                              Deadline deadline)
+            throws InvalidPersonalCodeException, InvalidLoanAmountException, InvalidLoanPeriodException,
+            NoValidLoanException, DeadlineExceededException {
+        deadline.check();
+
         try {
-            verifyInputs(personalCode, loanAmount, loanPeriod);
+            verifyInputs(personalCode, loanAmount, loanPeriod, policy);
         } catch (Exception e) {
             return new Decision(null, null, e.getMessage());
         }
 
         int outputLoanAmount;
-        creditModifier = getCreditModifier(personalCode);
+        int creditModifier = policy.getCreditModifier(getSegment(personalCode));
 
-        if (creditModifier == 0) {
-            throw new NoValidLoanException("No valid loan found!");
+        if (creditModifier <= 0) {
+            throw new NoValidLoanException(DecisionEngineConstants.NO_VALID_LOAN_MESSAGE);
         }
 
-        while (highestValidLoanAmount(loanPeriod) < DecisionEngineConstants.MINIMUM_LOAN_AMOUNT) {
+        while (highestValidLoanAmount(creditModifier, loanPeriod) < policy.getMinimumLoanAmount()
+                && loanPeriod <= policy.getMaximumLoanPeriod()) {
+            deadline.check();
             loanPeriod++;
         }
 
-        if (loanPeriod <= DecisionEngineConstants.MAXIMUM_LOAN_PERIOD) {
-            outputLoanAmount = Math.min(DecisionEngineConstants.MAXIMUM_LOAN_AMOUNT, highestValidLoanAmount(loanPeriod));
+        if (loanPeriod <= policy.getMaximumLoanPeriod()) {
+            outputLoanAmount = (int) Math.min(policy.getMaximumLoanAmount(),
+                    highestValidLoanAmount(creditModifier, loanPeriod));
         } else {
-            throw new NoValidLoanException("No valid loan found!");
+            throw new NoValidLoanException(DecisionEngineConstants.NO_VALID_LOAN_MESSAGE);
         }
 
         return new Decision(outputLoanAmount, loanPeriod, null);
     }
 
     /**
-     * Calculates the largest valid loan for the current credit modifier and loan period.
+     * Calculates the largest valid loan for the given credit modifier and loan period.
      *
      * @return Largest valid loan amount
      */
-    private int highestValidLoanAmount(int loanPeriod) {
-        return creditModifier * loanPeriod;
+    private long highestValidLoanAmount(int creditModifier, int loanPeriod) {
+        return (long) creditModifier * loanPeriod;
     }
 
     /**
-     * Calculates the credit modifier of the customer to according to the last four digits of their ID code.
+     * Calculates the segment of the customer according to the last four digits of their ID code.
      * Debt - 0000...2499
      * Segment 1 - 2500...4999
      * Segment 2 - 5000...7499
      * Segment 3 - 7500...9999
      *
      * @param personalCode ID code of the customer that made the request.
-     * @return Segment to which the customer belongs.
+     * @return Segment to which the customer belongs, 0 for customers with debt.
      */
-    private int getCreditModifier(String personalCode) {
+    public static int getSegment(String personalCode) {
         int segment = Integer.parseInt(personalCode.substring(personalCode.length() - 4));
 
         if (segment < 2500) {
             return 0;
         } else if (segment < 5000) {
-            return DecisionEngineConstants.SEGMENT_1_CREDIT_MODIFIER;
+            return 1;
         } else if (segment < 7500) {
-            return DecisionEngineConstants.SEGMENT_2_CREDIT_MODIFIER;
+            return 2;
         }
 
-        return DecisionEngineConstants.SEGMENT_3_CREDIT_MODIFIER;
+        return 3;
     }
 
     /**
@@ -104,23 +185,24 @@ public class DecisionEngine {
      * @param personalCode Provided personal ID code
      * @param loanAmount Requested loan amount
      * @param loanPeriod Requested loan period
+     * @param policy Loan bounds to verify the request against
      * @throws InvalidPersonalCodeException If the provided personal ID code is invalid
      * @throws InvalidLoanAmountException If the requested loan amount is invalid
      * @throws InvalidLoanPeriodException If the requested loan period is invalid
      */
-    private void verifyInputs(String personalCode, Long loanAmount, int loanPeriod)
+    private void verifyInputs(String personalCode, Long loanAmount, int loanPeriod, LoanPolicy policy)
             throws InvalidPersonalCodeException, InvalidLoanAmountException, InvalidLoanPeriodException {
 
         if (!validator.isValid(personalCode)) {
-            throw new InvalidPersonalCodeException("Invalid personal ID code!");
+            throw new InvalidPersonalCodeException(DecisionEngineConstants.INVALID_PERSONAL_CODE_MESSAGE);
         }
-        if (!(DecisionEngineConstants.MINIMUM_LOAN_AMOUNT <= loanAmount)
-                || !(loanAmount <= DecisionEngineConstants.MAXIMUM_LOAN_AMOUNT)) {
-            throw new InvalidLoanAmountException("Invalid loan amount!");
+        if (!(policy.getMinimumLoanAmount() <= loanAmount)
+                || !(loanAmount <= policy.getMaximumLoanAmount())) {
+            throw new InvalidLoanAmountException(DecisionEngineConstants.INVALID_LOAN_AMOUNT_MESSAGE);
         }
-        if (!(DecisionEngineConstants.MINIMUM_LOAN_PERIOD <= loanPeriod)
-                || !(loanPeriod <= DecisionEngineConstants.MAXIMUM_LOAN_PERIOD)) {
-            throw new InvalidLoanPeriodException("Invalid loan period!");
+        if (!(policy.getMinimumLoanPeriod() <= loanPeriod)
+                || !(loanPeriod <= policy.getMaximumLoanPeriod())) {
+            throw new InvalidLoanPeriodException(DecisionEngineConstants.INVALID_LOAN_PERIOD_MESSAGE);
         }
 
     }
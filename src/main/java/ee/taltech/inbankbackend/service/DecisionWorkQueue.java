@@ -0,0 +1,164 @@
+package ee.taltech.inbankbackend.service;
+
+import ee.taltech.inbankbackend.config.DecisionEngineConstants;
+import ee.taltech.inbankbackend.exceptions.DeadlineExceededException;
+import ee.taltech.inbankbackend.exceptions.InvalidLoanAmountException;
+import ee.taltech.inbankbackend.exceptions.InvalidLoanPeriodException;
+import ee.taltech.inbankbackend.exceptions.InvalidPersonalCodeException;
+import ee.taltech.inbankbackend.exceptions.NoValidLoanException;
+import ee.taltech.inbankbackend.exceptions.ServiceOverloadedException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs decision engine evaluations on a fixed number of worker threads behind a bounded queue.
+ * When the queue is full new requests are refused right away instead of piling up request threads,
+ * and a request is abandoned as soon as its deadline expires.
+ * Conservative fallback decisions are bounded as well, by a small number of permits.
+ */
+@Service
+public class DecisionWorkQueue {
+
+    private final DecisionEngine decisionEngine;
+    private final ThreadPoolExecutor executor;
+    private final Semaphore fallbackPermits;
+
+    @Autowired
+    DecisionWorkQueue(DecisionEngine decisionEngine,
+                      @Value("${decision.worker-threads:16}") int workerThreads,
+                      @Value("${decision.queue-capacity:64}") int queueCapacity,
+                      @Value("${decision.fallback-permits:4}") int fallbackPermits) {
+        this.decisionEngine = decisionEngine;
+        this.executor = new ThreadPoolExecutor(workerThreads, workerThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new ThreadPoolExecutor.AbortPolicy());
+        this.fallbackPermits = new Semaphore(fallbackPermits);
+    }
+
+    /**
+     * Calculates the maximum loan amount and period for the customer on one of the worker threads.
+     *
+     * @param personalCode ID code of the customer that made the request.
+     * @param loanAmount Requested loan amount
+     * @param loanPeriod Requested loan period
+     * @param deadline Point in time by which the decision has to be made
+     * @return A Decision object containing the approved loan amount and period, and an error message (if any)
+     * @throws InvalidPersonalCodeException If the provided personal ID code is invalid
+     * @throws InvalidLoanAmountException If the requested loan amount is invalid
+     * @throws InvalidLoanPeriodException If the requested loan period is invalid
+     * @throws NoValidLoanException If there is no valid loan found for the given ID code, loan amount and loan period
+     * @throws DeadlineExceededException If the deadline expired before the decision was made
+     * @throws ServiceOverloadedException If the work queue is full
+     */
+    public Decision calculateApprovedLoan(String personalCode, Long loanAmount, int loanPeriod, Deadline deadline)
+            throws InvalidPersonalCodeException, InvalidLoanAmountException, InvalidLoanPeriodException,
+            NoValidLoanException, DeadlineExceededException, ServiceOverloadedException {
+        deadline.check();
+
+        Future<Decision> future;
+        try {
+            future = executor.submit(
+                    () -> decisionEngine.calculateApprovedLoan(personalCode, loanAmount, loanPeriod, deadline));
+        } catch (RejectedExecutionException e) {
+            throw new ServiceOverloadedException(DecisionEngineConstants.SERVICE_OVERLOADED_MESSAGE, e);
+        }
+
+        try {
+            return future.get(deadline.remainingNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            abandon(future);
+            throw new DeadlineExceededException(DecisionEngineConstants.DEADLINE_EXCEEDED_MESSAGE, e);
+        } catch (InterruptedException e) {
+            abandon(future);
+            Thread.currentThread().interrupt();
+            throw new DeadlineExceededException(DecisionEngineConstants.DEADLINE_EXCEEDED_MESSAGE, e);
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    /**
+     * Calculates a conservative loan decision for when the work queue is full or the deadline has expired.
+     * It runs on the calling thread, but only while one of the fallback permits is free.
+     *
+     * @param personalCode ID code of the customer that made the request.
+     * @param loanAmount Requested loan amount
+     * @param loanPeriod Requested loan period
+     * @return A Decision object marked as degraded
+     * @throws InvalidPersonalCodeException If the provided personal ID code is invalid
+     * @throws InvalidLoanAmountException If the requested loan amount is invalid
+     * @throws InvalidLoanPeriodException If the requested loan period is invalid
+     * @throws NoValidLoanException If there is no valid loan found for the given ID code, loan amount and loan period
+     * @throws ServiceOverloadedException If all fallback permits are in use
+     */
+    public Decision calculateDegradedLoan(String personalCode, Long loanAmount, int loanPeriod)
+            throws InvalidPersonalCodeException, InvalidLoanAmountException, InvalidLoanPeriodException,
+            NoValidLoanException, ServiceOverloadedException {
+        if (!fallbackPermits.tryAcquire()) {
+            throw new ServiceOverloadedException(DecisionEngineConstants.SERVICE_OVERLOADED_MESSAGE);
+        }
+
+        try {
+            return decisionEngine.calculateDegradedLoan(personalCode, loanAmount, loanPeriod);
+        } finally {
+            fallbackPermits.release();
+        }
+    }
+
+    /**
+     * Cancels a request and takes it out of the queue if it has not started yet,
+     * so abandoned requests do not keep live ones from being queued.
+     *
+     * @param future Request to abandon
+     */
+    private void abandon(Future<Decision> future) {
+        future.cancel(true);
+        executor.remove((Runnable) future);
+    }
+
+    /**
+     * @return Number of requests waiting for a worker
+     */
+    int getQueuedRequests() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Rethrows the checked exceptions of the decision engine as they are, everything else is unexpected.
+     */
+    private static RuntimeException unwrap(Throwable cause)
+            throws InvalidPersonalCodeException, InvalidLoanAmountException, InvalidLoanPeriodException,
+            NoValidLoanException, DeadlineExceededException {
+        if (cause instanceof InvalidPersonalCodeException e) {
+            throw e;
+        } else if (cause instanceof InvalidLoanAmountException e) {
+            throw e;
+        } else if (cause instanceof InvalidLoanPeriodException e) {
+            throw e;
+        } else if (cause instanceof NoValidLoanException e) {
+            throw e;
+        } else if (cause instanceof DeadlineExceededException e) {
+            throw e;
+        } else if (cause instanceof RuntimeException e) {
+            return e;
+        } else if (cause instanceof Error e) {
+            throw e;
+        }
+        return new IllegalStateException("Unexpected decision engine failure", cause);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,66 @@
+package ee.taltech.inbankbackend.simulation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ee.taltech.inbankbackend.config.LoanPolicy;
+import ee.taltech.inbankbackend.service.DecisionEngine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Runs the what-if simulation on startup when the simulation.input property is set.
+ * Every file in simulation.candidates is a properties file overriding some of the DecisionEngineConstants,
+ * for example SEGMENT_1_CREDIT_MODIFIER=120. The report is printed to standard output.
+ */
+@Component
+@ConditionalOnProperty("simulation.input")
+public class PolicySimulationRunner implements ApplicationRunner {
+
+    private final PolicySimulator simulator;
+    private final Path input;
+    private final List<Path> candidates;
+
+    @Autowired
+    PolicySimulationRunner(DecisionEngine decisionEngine, ObjectMapper objectMapper,
+                           @Value("${simulation.input}") Path input,
+                           @Value("${simulation.candidates:}") List<Path> candidates,
+                           @Value("${simulation.batch-size:100000}") int batchSize,
+                           @Value("${simulation.parallelism:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}")
+                           int parallelism) {
+        this.simulator = new PolicySimulator(decisionEngine, objectMapper, batchSize, parallelism);
+        this.input = input;
+        this.candidates = candidates;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        List<LoanPolicy> candidatePolicies = new ArrayList<>(candidates.size());
+        for (Path candidate : candidates) {
+            Properties overrides = new Properties();
+            try (Reader reader = Files.newBufferedReader(candidate)) {
+                overrides.load(reader);
+            }
+            String name = candidate.getFileName().toString().replaceFirst("\\.properties$", "");
+            candidatePolicies.add(LoanPolicy.CURRENT.withOverrides(name, overrides));
+        }
+
+        SimulationReport report;
+        try (InputStream stream = new BufferedInputStream(Files.newInputStream(input))) {
+            report = simulator.simulate(stream, candidatePolicies);
+        }
+        System.out.print(report.format());
+    }
+}
@@ -0,0 +1,212 @@
+package ee.taltech.inbankbackend.simulation;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.vladislavgoltjajev.personalcode.locale.estonia.EstonianPersonalCodeValidator;
+import ee.taltech.inbankbackend.config.LoanPolicy;
+import ee.taltech.inbankbackend.endpoint.DecisionRequest;
+import ee.taltech.inbankbackend.exceptions.InvalidLoanAmountException;
+import ee.taltech.inbankbackend.exceptions.InvalidLoanPeriodException;
+import ee.taltech.inbankbackend.exceptions.InvalidPersonalCodeException;
+import ee.taltech.inbankbackend.exceptions.NoValidLoanException;
+import ee.taltech.inbankbackend.service.Decision;
+import ee.taltech.inbankbackend.service.DecisionEngine;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Replays recorded decision requests against the current policy and one or more candidate policies side by side.
+ * The input is streamed in fixed-size batches, so memory use only depends on the batch size and not on the
+ * number of records. Every batch is evaluated for all policies in parallel on a fork-join pool.
+ */
+public class PolicySimulator {
+
+    // Number of requests a single fork-join task evaluates without splitting further.
+    private static final int TASK_THRESHOLD = 2048;
+
+    private final DecisionEngine decisionEngine;
+    private final ObjectMapper objectMapper;
+    private final EstonianPersonalCodeValidator validator = new EstonianPersonalCodeValidator();
+    private final int batchSize;
+    private final int parallelism;
+
+    public PolicySimulator(DecisionEngine decisionEngine, ObjectMapper objectMapper, int batchSize, int parallelism) {
+        if (batchSize <= 0 || parallelism <= 0) {
+            throw new IllegalArgumentException("Batch size and parallelism must be positive");
+        }
+        this.decisionEngine = decisionEngine;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Replays the requests against the current policy and the candidate policies.
+     *
+     * @param input Stream of JSON DecisionRequest objects, separated by whitespace (for example one per line)
+     * @param candidatePolicies Policies to compare against the current one
+     * @return Report containing the aggregate statistics of every policy
+     * @throws IOException If the input cannot be read or contains malformed JSON
+     */
+    public SimulationReport simulate(InputStream input, List<LoanPolicy> candidatePolicies) throws IOException {
+        List<LoanPolicy> policies = new ArrayList<>(candidatePolicies.size() + 1);
+        policies.add(LoanPolicy.CURRENT);
+        policies.addAll(candidatePolicies);
+
+        List<PolicyStatistics> totals = new ArrayList<>(policies.size());
+        for (int i = 0; i < policies.size(); i++) {
+            totals.add(new PolicyStatistics());
+        }
+
+        DecisionRequest[] requests = new DecisionRequest[batchSize];
+        int[] buckets = new int[batchSize];
+        long records = 0;
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try (MappingIterator<DecisionRequest> iterator =
+                     objectMapper.readerFor(DecisionRequest.class).readValues(input)) {
+            while (iterator.hasNextValue()) {
+                int size = 0;
+                while (size < batchSize && iterator.hasNextValue()) {
+                    DecisionRequest request = iterator.nextValue();
+                    if (request != null) {
+                        requests[size++] = request;
+                    }
+                }
+                records += size;
+
+                evaluateBatch(pool, policies, totals, requests, buckets, size);
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        return new SimulationReport(records, LoanPolicy.CURRENT, totals.get(0),
+                List.copyOf(candidatePolicies), List.copyOf(totals.subList(1, totals.size())));
+    }
+
+    private void evaluateBatch(ForkJoinPool pool, List<LoanPolicy> policies, List<PolicyStatistics> totals,
+                               DecisionRequest[] requests, int[] buckets, int size) {
+        // The segment only depends on the personal code, so it is shared by all policies.
+        pool.invoke(new BucketTask(requests, buckets, 0, size));
+
+        List<EvaluationTask> tasks = new ArrayList<>(policies.size());
+        for (LoanPolicy policy : policies) {
+            tasks.add(new EvaluationTask(policy, requests, buckets, 0, size));
+        }
+        pool.invoke(new InvokeAllTask(tasks));
+
+        for (int i = 0; i < tasks.size(); i++) {
+            totals.get(i).merge(tasks.get(i).join());
+        }
+    }
+
+    private int getBucket(DecisionRequest request) {
+        String personalCode = request.getPersonalCode();
+        if (personalCode == null || !validator.isValid(personalCode)) {
+            return PolicyStatistics.INVALID_PERSONAL_CODE;
+        }
+        return DecisionEngine.getSegment(personalCode);
+    }
+
+    private Decision evaluate(DecisionRequest request, LoanPolicy policy) {
+        try {
+            return decisionEngine.calculateApprovedLoan(
+                    request.getPersonalCode(), request.getLoanAmount(), request.getLoanPeriod(), policy);
+        } catch (NoValidLoanException | InvalidPersonalCodeException | InvalidLoanAmountException
+                 | InvalidLoanPeriodException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Runs the evaluation tasks of all policies concurrently.
+     */
+    private static class InvokeAllTask extends RecursiveTask<Void> {
+        private final List<EvaluationTask> tasks;
+
+        private InvokeAllTask(List<EvaluationTask> tasks) {
+            this.tasks = tasks;
+        }
+
+        @Override
+        protected Void compute() {
+            ForkJoinTask.invokeAll(tasks);
+            return null;
+        }
+    }
+
+    /**
+     * Determines the segment of every request in a range of the batch.
+     */
+    private class BucketTask extends RecursiveTask<Void> {
+        private final DecisionRequest[] requests;
+        private final int[] buckets;
+        private final int from;
+        private final int to;
+
+        private BucketTask(DecisionRequest[] requests, int[] buckets, int from, int to) {
+            this.requests = requests;
+            this.buckets = buckets;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Void compute() {
+            if (to - from <= TASK_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    buckets[i] = getBucket(requests[i]);
+                }
+                return null;
+            }
+
+            int middle = (from + to) >>> 1;
+            ForkJoinTask.invokeAll(new BucketTask(requests, buckets, from, middle),
+                    new BucketTask(requests, buckets, middle, to));
+            return null;
+        }
+    }
+
+    /**
+     * Evaluates a range of the batch against a single policy.
+     */
+    private class EvaluationTask extends RecursiveTask<PolicyStatistics> {
+        private final LoanPolicy policy;
+        private final DecisionRequest[] requests;
+        private final int[] buckets;
+        private final int from;
+        private final int to;
+
+        private EvaluationTask(LoanPolicy policy, DecisionRequest[] requests, int[] buckets, int from, int to) {
+            this.policy = policy;
+            this.requests = requests;
+            this.buckets = buckets;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected PolicyStatistics compute() {
+            if (to - from <= TASK_THRESHOLD) {
+                PolicyStatistics statistics = new PolicyStatistics();
+                for (int i = from; i < to; i++) {
+                    statistics.record(buckets[i], requests[i].getLoanPeriod(), evaluate(requests[i], policy));
+                }
+                return statistics;
+            }
+
+            int middle = (from + to) >>> 1;
+            EvaluationTask left = new EvaluationTask(policy, requests, buckets, from, middle);
+            EvaluationTask right = new EvaluationTask(policy, requests, buckets, middle, to);
+            left.fork();
+            return right.compute().merge(left.join());
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package ee.taltech.inbankbackend.simulation;
+
+import ee.taltech.inbankbackend.service.Decision;
+
+/**
+ * Accumulates the outcome of simulated decisions for a single policy, broken down by customer segment.
+ * Instances are not thread-safe, every fork-join task fills its own and they are merged afterwards.
+ */
+public class PolicyStatistics {
+
+    // Segments 0...3 as returned by DecisionEngine.getSegment, plus one bucket for invalid personal codes.
+    public static final int INVALID_PERSONAL_CODE = 4;
+    public static final int BUCKETS = 5;
+
+    private final long[] requests = new long[BUCKETS];
+    private final long[] approved = new long[BUCKETS];
+    private final long[] approvedVolume = new long[BUCKETS];
+    private final long[] periodExtension = new long[BUCKETS];
+
+    /**
+     * Records the outcome of a single request.
+     *
+     * @param bucket Segment of the customer or INVALID_PERSONAL_CODE
+     * @param requestedPeriod Loan period of the request
+     * @param decision Decision of the engine, null if no valid loan was found
+     */
+    void record(int bucket, int requestedPeriod, Decision decision) {
+        requests[bucket]++;
+        if (decision == null || decision.getLoanAmount() == null) {
+            return;
+        }
+
+        approved[bucket]++;
+        approvedVolume[bucket] += decision.getLoanAmount();
+        periodExtension[bucket] += decision.getLoanPeriod() - requestedPeriod;
+    }
+
+    /**
+     * Adds the statistics of another part of the input to this one.
+     *
+     * @param other Statistics to add
+     * @return This instance
+     */
+    PolicyStatistics merge(PolicyStatistics other) {
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            requests[bucket] += other.requests[bucket];
+            approved[bucket] += other.approved[bucket];
+            approvedVolume[bucket] += other.approvedVolume[bucket];
+            periodExtension[bucket] += other.periodExtension[bucket];
+        }
+        return this;
+    }
+
+    public long getRequests(int bucket) {
+        return requests[bucket];
+    }
+
+    public long getApproved(int bucket) {
+        return approved[bucket];
+    }
+
+    public long getApprovedVolume(int bucket) {
+        return approvedVolume[bucket];
+    }
+
+    /**
+     * @param bucket Segment of the customer or INVALID_PERSONAL_CODE
+     * @return Share of approved requests, 0 if there were no requests
+     */
+    public double getApprovalRate(int bucket) {
+        return requests[bucket] == 0 ? 0 : (double) approved[bucket] / requests[bucket];
+    }
+
+    /**
+     * @param bucket Segment of the customer or INVALID_PERSONAL_CODE
+     * @return Average number of months the approved period exceeds the requested one, 0 if nothing was approved
+     */
+    public double getAveragePeriodExtension(int bucket) {
+        return approved[bucket] == 0 ? 0 : (double) periodExtension[bucket] / approved[bucket];
+    }
+}
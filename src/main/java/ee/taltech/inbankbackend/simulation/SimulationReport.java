@@ -0,0 +1,58 @@
+package ee.taltech.inbankbackend.simulation;
+
+import ee.taltech.inbankbackend.config.LoanPolicy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Holds the result of a what-if simulation: the statistics of the current policy and of every candidate policy.
+ */
+@Getter
+@AllArgsConstructor
+public class SimulationReport {
+
+    private static final String[] BUCKET_NAMES = {"Debt", "Segment 1", "Segment 2", "Segment 3", "Invalid code"};
+
+    private final long records;
+    private final LoanPolicy baselinePolicy;
+    private final PolicyStatistics baseline;
+    private final List<LoanPolicy> candidatePolicies;
+    private final List<PolicyStatistics> candidates;
+
+    /**
+     * Formats the report as a table per candidate policy, showing the aggregate deltas against the current policy
+     * for approval rate, total approved volume and average period extension per segment.
+     *
+     * @return Human-readable report
+     */
+    public String format() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("Replayed %d requests against policy '%s'%n", records, baselinePolicy.getName()));
+
+        for (int i = 0; i < candidates.size(); i++) {
+            PolicyStatistics candidate = candidates.get(i);
+            builder.append(String.format("%nCandidate '%s'%n", candidatePolicies.get(i).getName()));
+            builder.append(String.format("%-13s %10s %24s %30s %24s%n",
+                    "Segment", "Requests", "Approval rate", "Approved volume", "Avg period extension"));
+
+            for (int bucket = 0; bucket < PolicyStatistics.BUCKETS; bucket++) {
+                builder.append(String.format("%-13s %10d %7.2f%% -> %6.2f%% (%+6.2f) %9d -> %9d (%+9d) %6.2f -> %6.2f (%+6.2f)%n",
+                        BUCKET_NAMES[bucket],
+                        baseline.getRequests(bucket),
+                        baseline.getApprovalRate(bucket) * 100,
+                        candidate.getApprovalRate(bucket) * 100,
+                        (candidate.getApprovalRate(bucket) - baseline.getApprovalRate(bucket)) * 100,
+                        baseline.getApprovedVolume(bucket),
+                        candidate.getApprovedVolume(bucket),
+                        candidate.getApprovedVolume(bucket) - baseline.getApprovedVolume(bucket),
+                        baseline.getAveragePeriodExtension(bucket),
+                        candidate.getAveragePeriodExtension(bucket),
+                        candidate.getAveragePeriodExtension(bucket) - baseline.getAveragePeriodExtension(bucket)));
+            }
+        }
+
+        return builder.toString();
+    }
+}
@@ -0,0 +1,63 @@
+package ee.taltech.inbankbackend.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LoanPolicyTest {
+
+    @Test
+    void testOverrides() {
+        Properties overrides = new Properties();
+        overrides.setProperty("SEGMENT_1_CREDIT_MODIFIER", "200");
+        overrides.setProperty("MAXIMUM_LOAN_AMOUNT", "12000");
+
+        LoanPolicy policy = LoanPolicy.CURRENT.withOverrides("candidate", overrides);
+
+        assertEquals("candidate", policy.getName());
+        assertEquals(200, policy.getCreditModifier(1));
+        assertEquals(DecisionEngineConstants.SEGMENT_2_CREDIT_MODIFIER, policy.getCreditModifier(2));
+        assertEquals(12000, policy.getMaximumLoanAmount());
+        assertEquals(DecisionEngineConstants.MINIMUM_LOAN_AMOUNT, policy.getMinimumLoanAmount());
+    }
+
+    @Test
+    void testUnknownPolicyKey() {
+        Properties overrides = new Properties();
+        overrides.setProperty("SEGMENT_4_CREDIT_MODIFIER", "200");
+
+        assertThrows(IllegalArgumentException.class, () -> LoanPolicy.CURRENT.withOverrides("candidate", overrides));
+    }
+
+    @Test
+    void testInconsistentPolicy() {
+        Properties amountBounds = new Properties();
+        amountBounds.setProperty("MINIMUM_LOAN_AMOUNT", "20000");
+        Properties periodBounds = new Properties();
+        periodBounds.setProperty("MINIMUM_LOAN_PERIOD", "0");
+        Properties creditModifier = new Properties();
+        creditModifier.setProperty("SEGMENT_2_CREDIT_MODIFIER", "-1");
+
+        assertThrows(IllegalArgumentException.class, () -> LoanPolicy.CURRENT.withOverrides("candidate", amountBounds));
+        assertThrows(IllegalArgumentException.class, () -> LoanPolicy.CURRENT.withOverrides("candidate", periodBounds));
+        assertThrows(IllegalArgumentException.class,
+                () -> LoanPolicy.CURRENT.withOverrides("candidate", creditModifier));
+    }
+
+    @Test
+    void testWithMinimumSegment() {
+        LoanPolicy policy = LoanPolicy.CURRENT.withMinimumSegment();
+
+        assertEquals(0, policy.getCreditModifier(0));
+        assertEquals(DecisionEngineConstants.SEGMENT_1_CREDIT_MODIFIER, policy.getCreditModifier(1));
+        assertEquals(DecisionEngineConstants.SEGMENT_1_CREDIT_MODIFIER, policy.getCreditModifier(2));
+        assertEquals(DecisionEngineConstants.SEGMENT_1_CREDIT_MODIFIER, policy.getCreditModifier(3));
+        assertEquals(LoanPolicy.CURRENT.getMinimumLoanAmount(), policy.getMinimumLoanAmount());
+        assertEquals(LoanPolicy.CURRENT.getMaximumLoanAmount(), policy.getMaximumLoanAmount());
+        assertEquals(LoanPolicy.CURRENT.getMinimumLoanPeriod(), policy.getMinimumLoanPeriod());
+        assertEquals(LoanPolicy.CURRENT.getMaximumLoanPeriod(), policy.getMaximumLoanPeriod());
+    }
+}
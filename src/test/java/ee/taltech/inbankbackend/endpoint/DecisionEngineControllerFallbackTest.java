@@ -0,0 +1,68 @@
+package ee.taltech.inbankbackend.endpoint;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ee.taltech.inbankbackend.exceptions.DeadlineExceededException;
+import ee.taltech.inbankbackend.exceptions.InvalidLoanAmountException;
+import ee.taltech.inbankbackend.exceptions.InvalidLoanPeriodException;
+import ee.taltech.inbankbackend.exceptions.InvalidPersonalCodeException;
+import ee.taltech.inbankbackend.exceptions.NoValidLoanException;
+import ee.taltech.inbankbackend.service.Deadline;
+import ee.taltech.inbankbackend.service.Decision;
+import ee.taltech.inbankbackend.service.DecisionEngine;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * This class holds integration tests for the DecisionEngineController endpoint with the degraded fallback enabled.
+ */
+@SpringBootTest(properties = "decision.degraded-fallback=true")
+@AutoConfigureMockMvc
+public class DecisionEngineControllerFallbackTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private DecisionEngine decisionEngine;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * This test ensures that if the decision cannot be made before the deadline, the controller returns
+     * an HTTP OK (200) response with the conservative decision marked as degraded.
+     */
+    @Test
+    public void givenExpiredDeadline_whenRequestDecision_thenReturnsDegradedDecision()
+            throws Exception, InvalidLoanPeriodException, NoValidLoanException, InvalidPersonalCodeException,
+            InvalidLoanAmountException, DeadlineExceededException {
+        when(decisionEngine.calculateApprovedLoan(anyString(), anyLong(), anyInt(), any(Deadline.class)))
+                .thenThrow(new DeadlineExceededException("Request deadline exceeded!"));
+        when(decisionEngine.calculateDegradedLoan(anyString(), anyLong(), anyInt()))
+                .thenReturn(new Decision(2000, 20, null, true));
+
+        DecisionRequest request = new DecisionRequest("50307172740", 4000L, 12);
+
+        mockMvc.perform(post("/loan/decision")
+                        .content(objectMapper.writeValueAsString(request))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.loanAmount").value(2000))
+                .andExpect(jsonPath("$.loanPeriod").value(20))
+                .andExpect(jsonPath("$.errorMessage").isEmpty())
+                .andExpect(jsonPath("$.degraded").value(true));
+    }
+}
@@ -1,15 +1,18 @@
 package ee.taltech.inbankbackend.endpoint;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import ee.taltech.inbankbackend.exceptions.DeadlineExceededException;
 import ee.taltech.inbankbackend.exceptions.InvalidLoanAmountException;
 import ee.taltech.inbankbackend.exceptions.InvalidLoanPeriodException;
 import ee.taltech.inbankbackend.exceptions.InvalidPersonalCodeException;
 import ee.taltech.inbankbackend.exceptions.NoValidLoanException;
+import ee.taltech.inbankbackend.service.Deadline;
 import ee.taltech.inbankbackend.service.Decision;
 import ee.taltech.inbankbackend.service.DecisionEngine;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -20,9 +23,15 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -55,11 +64,11 @@ public class DecisionEngineControllerTest {
     @Test
     public void givenValidRequest_whenRequestDecision_thenReturnsExpectedResponse()
             throws Exception, InvalidLoanPeriodException, NoValidLoanException, InvalidPersonalCodeException,
-            InvalidLoanAmountException {
+            InvalidLoanAmountException, DeadlineExceededException {
         Decision decision = new Decision(1000, 12, null);
-        when(decisionEngine.calculateApprovedLoan(anyString(), anyLong(), anyInt())).thenReturn(decision);
+        when(decisionEngine.calculateApprovedLoan(anyString(), anyLong(), anyInt(), any(Deadline.class))).thenReturn(decision);
 
-        DecisionRequest request = new DecisionRequest("1234", 10L, 10);
+        DecisionRequest request = new DecisionRequest("50307172740", 4000L, 12);
 
         MvcResult result = mockMvc.perform(post("/loan/decision")
                         .content(objectMapper.writeValueAsString(request))
@@ -69,6 +78,7 @@ public class DecisionEngineControllerTest {
                 .andExpect(jsonPath("$.loanAmount").value(1000))
                 .andExpect(jsonPath("$.loanPeriod").value(12))
                 .andExpect(jsonPath("$.errorMessage").isEmpty())
+                .andExpect(jsonPath("$.degraded").value(false))
                 .andReturn();
 
         DecisionResponse response = objectMapper.readValue(result.getResponse().getContentAsString(), DecisionResponse.class);
@@ -84,11 +94,11 @@ public class DecisionEngineControllerTest {
     @Test
     public void givenInvalidPersonalCode_whenRequestDecision_thenReturnsBadRequest()
             throws Exception, InvalidLoanPeriodException, NoValidLoanException, InvalidPersonalCodeException,
-            InvalidLoanAmountException {
-        when(decisionEngine.calculateApprovedLoan(anyString(), anyLong(), anyInt()))
+            InvalidLoanAmountException, DeadlineExceededException {
+        when(decisionEngine.calculateApprovedLoan(anyString(), anyLong(), anyInt(), any(Deadline.class)))
                 .thenThrow(new InvalidPersonalCodeException("Invalid personal code"));
 
-        DecisionRequest request = new DecisionRequest("1234", 10L, 10);
+        DecisionRequest request = new DecisionRequest("50307172740", 4000L, 12);
 
         MvcResult result = mockMvc.perform(post("/loan/decision")
                         .content(objectMapper.writeValueAsString(request))
@@ -113,11 +123,11 @@ public class DecisionEngineControllerTest {
     @Test
     public void givenInvalidLoanAmount_whenRequestDecision_thenReturnsBadRequest()
             throws Exception, InvalidLoanPeriodException, NoValidLoanException, InvalidPersonalCodeException,
-            InvalidLoanAmountException {
-        when(decisionEngine.calculateApprovedLoan(anyString(), anyLong(), anyInt()))
+            InvalidLoanAmountException, DeadlineExceededException {
+        when(decisionEngine.calculateApprovedLoan(anyString(), anyLong(), anyInt(), any(Deadline.class)))
                 .thenThrow(new InvalidLoanAmountException("Invalid loan amount"));
 
-        DecisionRequest request = new DecisionRequest("1234", 10L, 10);
+        DecisionRequest request = new DecisionRequest("50307172740", 4000L, 12);
 
         MvcResult result = mockMvc.perform(post("/loan/decision")
                         .content(objectMapper.writeValueAsString(request))
@@ -142,11 +152,11 @@ public class DecisionEngineControllerTest {
     @Test
     public void givenInvalidLoanPeriod_whenRequestDecision_thenReturnsBadRequest()
             throws Exception, InvalidLoanPeriodException, NoValidLoanException, InvalidPersonalCodeException,
-            InvalidLoanAmountException {
-        when(decisionEngine.calculateApprovedLoan(anyString(), anyLong(), anyInt()))
+            InvalidLoanAmountException, DeadlineExceededException {
+        when(decisionEngine.calculateApprovedLoan(anyString(), anyLong(), anyInt(), any(Deadline.class)))
                 .thenThrow(new InvalidLoanPeriodException("Invalid loan period"));
 
-        DecisionRequest request = new DecisionRequest("1234", 10L, 10);
+        DecisionRequest request = new DecisionRequest("50307172740", 4000L, 12);
 
         MvcResult result = mockMvc.perform(post("/loan/decision")
                         .content(objectMapper.writeValueAsString(request))
@@ -171,11 +181,11 @@ public class DecisionEngineControllerTest {
     @Test
     public void givenNoValidLoan_whenRequestDecision_thenReturnsBadRequest()
             throws Exception, InvalidLoanPeriodException, NoValidLoanException, InvalidPersonalCodeException,
-            InvalidLoanAmountException {
-        when(decisionEngine.calculateApprovedLoan(anyString(), anyLong(), anyInt()))
+            InvalidLoanAmountException, DeadlineExceededException {
+        when(decisionEngine.calculateApprovedLoan(anyString(), anyLong(), anyInt(), any(Deadline.class)))
                 .thenThrow(new NoValidLoanException("No valid loan available"));
 
-        DecisionRequest request = new DecisionRequest("1234", 1000L, 12);
+        DecisionRequest request = new DecisionRequest("50307172740", 4000L, 12);
 
         MvcResult result = mockMvc.perform(post("/loan/decision")
                         .content(objectMapper.writeValueAsString(request))
@@ -200,10 +210,10 @@ public class DecisionEngineControllerTest {
     @Test
     public void givenUnexpectedError_whenRequestDecision_thenReturnsInternalServerError()
             throws Exception, InvalidLoanPeriodException, NoValidLoanException, InvalidPersonalCodeException,
-            InvalidLoanAmountException {
-        when(decisionEngine.calculateApprovedLoan(anyString(), anyLong(), anyInt())).thenThrow(new RuntimeException());
+            InvalidLoanAmountException, DeadlineExceededException {
+        when(decisionEngine.calculateApprovedLoan(anyString(), anyLong(), anyInt(), any(Deadline.class))).thenThrow(new RuntimeException());
 
-        DecisionRequest request = new DecisionRequest("1234", 10L, 10);
+        DecisionRequest request = new DecisionRequest("50307172740", 4000L, 12);
 
         MvcResult result = mockMvc.perform(post("/loan/decision")
                         .content(objectMapper.writeValueAsString(request))
@@ -220,4 +230,113 @@ public class DecisionEngineControllerTest {
         assert response.getLoanPeriod() == null;
         assert response.getErrorMessage().equals("An unexpected error occurred");
     }
+
+    /**
+     * This test ensures that if the decision cannot be made before the deadline,
+     * the controller returns an HTTP Service Unavailable (503) response with the appropriate error message.
+     */
+    @Test
+    public void givenExpiredDeadline_whenRequestDecision_thenReturnsServiceUnavailable()
+            throws Exception, InvalidLoanPeriodException, NoValidLoanException, InvalidPersonalCodeException,
+            InvalidLoanAmountException, DeadlineExceededException {
+        when(decisionEngine.calculateApprovedLoan(anyString(), anyLong(), anyInt(), any(Deadline.class)))
+                .thenThrow(new DeadlineExceededException("Request deadline exceeded!"));
+
+        DecisionRequest request = new DecisionRequest("50307172740", 4000L, 12);
+
+        mockMvc.perform(post("/loan/decision")
+                        .content(objectMapper.writeValueAsString(request))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.loanAmount").isEmpty())
+                .andExpect(jsonPath("$.loanPeriod").isEmpty())
+                .andExpect(jsonPath("$.errorMessage").value("Request deadline exceeded!"))
+                .andExpect(jsonPath("$.degraded").value(false));
+    }
+
+    /**
+     * This test ensures that a timeout header longer than the configured timeout cannot extend the deadline,
+     * even when it is too large to be counted in nanoseconds.
+     */
+    @Test
+    public void givenOversizedTimeoutHeader_whenRequestDecision_thenUsesConfiguredTimeout()
+            throws Exception, InvalidLoanPeriodException, NoValidLoanException, InvalidPersonalCodeException,
+            InvalidLoanAmountException, DeadlineExceededException {
+        ArgumentCaptor<Deadline> deadline = ArgumentCaptor.forClass(Deadline.class);
+        when(decisionEngine.calculateApprovedLoan(anyString(), anyLong(), anyInt(), deadline.capture()))
+                .thenReturn(new Decision(1000, 12, null));
+
+        DecisionRequest request = new DecisionRequest("50307172740", 4000L, 12);
+
+        mockMvc.perform(post("/loan/decision")
+                        .header(DecisionEngineController.TIMEOUT_HEADER, "10000000000000")
+                        .content(objectMapper.writeValueAsString(request))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.loanAmount").value(1000))
+                .andExpect(jsonPath("$.loanPeriod").value(12));
+
+        assertTrue(deadline.getValue().remainingNanos() <= Duration.ofSeconds(1).toNanos());
+    }
+
+    /**
+     * This test ensures that a request with an invalid personal code is rejected while it is read, with the same
+     * response the decision engine gives, without the request reaching the decision engine.
+     */
+    @Test
+    public void givenInvalidPersonalCode_whenRequestDecision_thenRejectsWhileReading()
+            throws Exception, InvalidLoanPeriodException, NoValidLoanException, InvalidPersonalCodeException,
+            InvalidLoanAmountException, DeadlineExceededException {
+        mockMvc.perform(post("/loan/decision")
+                        .content("{\"personalCode\": \"1234\", \"loanAmount\": 4000, \"loanPeriod\": 12}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.loanAmount").isEmpty())
+                .andExpect(jsonPath("$.loanPeriod").isEmpty())
+                .andExpect(jsonPath("$.errorMessage").value("Invalid personal ID code!"));
+
+        verify(decisionEngine, never()).calculateApprovedLoan(anyString(), anyLong(), anyInt(), any(Deadline.class));
+    }
+
+    /**
+     * This test ensures that a request with an invalid loan amount is rejected while it is read, with the same
+     * response the decision engine gives, without the request reaching the decision engine.
+     */
+    @Test
+    public void givenInvalidLoanAmount_whenRequestDecision_thenRejectsWhileReading()
+            throws Exception, InvalidLoanPeriodException, NoValidLoanException, InvalidPersonalCodeException,
+            InvalidLoanAmountException, DeadlineExceededException {
+        mockMvc.perform(post("/loan/decision")
+                        .content("{\"personalCode\": \"50307172740\", \"loanAmount\": 10, \"loanPeriod\": 12}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.loanAmount").isEmpty())
+                .andExpect(jsonPath("$.loanPeriod").isEmpty())
+                .andExpect(jsonPath("$.errorMessage").value("Invalid loan amount!"));
+
+        verify(decisionEngine, never()).calculateApprovedLoan(anyString(), anyLong(), anyInt(), any(Deadline.class));
+    }
+
+    /**
+     * This test ensures that a request with an invalid loan period is rejected while it is read, with the same
+     * response the decision engine gives, without the request reaching the decision engine.
+     */
+    @Test
+    public void givenInvalidLoanPeriod_whenRequestDecision_thenRejectsWhileReading()
+            throws Exception, InvalidLoanPeriodException, NoValidLoanException, InvalidPersonalCodeException,
+            InvalidLoanAmountException, DeadlineExceededException {
+        mockMvc.perform(post("/loan/decision")
+                        .content("{\"personalCode\": \"50307172740\", \"loanAmount\": 4000, \"loanPeriod\": 61}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.loanAmount").isEmpty())
+                .andExpect(jsonPath("$.loanPeriod").isEmpty())
+                .andExpect(jsonPath("$.errorMessage").value("Invalid loan period!"));
+
+        verify(decisionEngine, never()).calculateApprovedLoan(anyString(), anyLong(), anyInt(), any(Deadline.class));
+    }
 }
@@ -0,0 +1,100 @@
+package ee.taltech.inbankbackend.endpoint;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpInputMessage;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * This class checks that the DecisionRequestReader rejects invalid requests with the decision engine's
+ * error messages and binds everything else like Jackson does.
+ */
+class DecisionRequestReaderTest {
+
+    private DecisionRequestReader reader;
+
+    @BeforeEach
+    void setUp() {
+        reader = new DecisionRequestReader(Jackson2ObjectMapperBuilder.json().build());
+    }
+
+    @Test
+    void testValidRequest() throws Exception {
+        DecisionRequest request = read("{\"personalCode\": \"50307172740\", \"loanAmount\": 4000, \"loanPeriod\": 12}");
+        assertEquals("50307172740", request.getPersonalCode());
+        assertEquals(4000L, request.getLoanAmount());
+        assertEquals(12, request.getLoanPeriod());
+    }
+
+    @Test
+    void testInvalidPersonalCode() {
+        assertRejected("Invalid personal ID code!", "{\"personalCode\": \"1234\", \"loanAmount\": 4000, \"loanPeriod\": 12}");
+        assertRejected("Invalid personal ID code!", "{\"personalCode\": \"12345678901\", \"loanAmount\": 4000}");
+        assertRejected("Invalid personal ID code!", "{\"personalCode\": \"5030717274a\", \"loanAmount\": 4000}");
+    }
+
+    @Test
+    void testInvalidLoanAmount() {
+        assertRejected("Invalid loan amount!", "{\"personalCode\": \"50307172740\", \"loanAmount\": 1999, \"loanPeriod\": 12}");
+        assertRejected("Invalid loan amount!", "{\"personalCode\": \"50307172740\", \"loanAmount\": 10001, [");
+    }
+
+    @Test
+    void testInvalidLoanPeriod() {
+        assertRejected("Invalid loan period!", "{\"personalCode\": \"50307172740\", \"loanAmount\": 4000, \"loanPeriod\": 61}");
+    }
+
+    @Test
+    void testPersonalCodeTakesPrecedence() {
+        assertRejected("Invalid personal ID code!", "{\"loanAmount\": 1, \"loanPeriod\": 1, \"personalCode\": \"1234\"}");
+        assertRejected("Invalid loan amount!", "{\"loanPeriod\": 1, \"loanAmount\": 1, \"personalCode\": \"50307172740\"}");
+    }
+
+    @Test
+    void testUnusualRequestFallsBackToBinding() throws Exception {
+        DecisionRequest request = read("{\"personalCode\": \"50307172740\", \"loanAmount\": \"5000\", \"loanPeriod\": \"24\"}");
+        assertEquals(5000L, request.getLoanAmount());
+        assertEquals(24, request.getLoanPeriod());
+
+        assertThrows(HttpMessageNotReadableException.class, () -> read("{\"personalCode\": \"50307172740\", "));
+    }
+
+    @Test
+    void testDuplicateFieldIsNeverApproved() {
+        assertRejected("Invalid personal ID code!",
+                "{\"personalCode\": \"1234\", \"personalCode\": \"50307172740\", \"loanAmount\": 4000, \"loanPeriod\": 12}");
+        assertNotReadable("{\"personalCode\": \"50307172740\", \"personalCode\": \"1234\", \"loanAmount\": 4000, \"loanPeriod\": 12}");
+        assertNotReadable("{\"personalCode\": \"50307172740\", \"loanAmount\": 4000, \"loanPeriod\": 12, \"loanAmount\": 4000}");
+        assertNotReadable("{\"personalCode\": \"50307172740\", \"loanAmount\": \"4000\", \"loanPeriod\": 12, \"loanPeriod\": 12}");
+    }
+
+    @Test
+    void testOversizedBody() {
+        String padding = " ".repeat(DecisionRequestReader.MAXIMUM_BODY_SIZE);
+        HttpMessageNotReadableException e = assertNotReadable(
+                "{\"personalCode\": \"50307172740\"," + padding + "\"loanAmount\": 4000, \"loanPeriod\": 12}");
+        assertEquals("Request body too large", e.getMessage());
+    }
+
+    private DecisionRequest read(String body) throws Exception {
+        return reader.read(DecisionRequest.class, new MockHttpInputMessage(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private HttpMessageNotReadableException assertNotReadable(String body) {
+        HttpMessageNotReadableException e = assertThrows(HttpMessageNotReadableException.class, () -> read(body));
+        assertFalse(e instanceof RejectedDecisionRequestException);
+        return e;
+    }
+
+    private void assertRejected(String errorMessage, String body) {
+        RejectedDecisionRequestException e = assertThrows(RejectedDecisionRequestException.class, () -> read(body));
+        assertEquals(errorMessage, e.getMessage());
+    }
+}
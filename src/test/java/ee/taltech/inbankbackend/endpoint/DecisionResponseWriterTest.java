@@ -0,0 +1,73 @@
+package ee.taltech.inbankbackend.endpoint;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * This class checks that the DecisionResponseWriter produces the same JSON as Jackson.
+ */
+class DecisionResponseWriterTest {
+
+    private DecisionResponseWriter writer;
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        writer = new DecisionResponseWriter();
+        objectMapper = new ObjectMapper();
+    }
+
+    @Test
+    void testApprovedResponse() throws Exception {
+        assertSameAsJackson(response(2400, 24, null));
+    }
+
+    @Test
+    void testPreEncodedErrorMessage() throws Exception {
+        assertSameAsJackson(response(null, null, "No valid loan found!"));
+        assertSameAsJackson(response(null, null, "Invalid personal ID code!"));
+    }
+
+    @Test
+    void testOtherErrorMessage() throws Exception {
+        assertSameAsJackson(response(null, null, "Quote \" backslash \\ tab \t \u00fcmlaut"));
+    }
+
+    @Test
+    void testDegradedResponse() throws Exception {
+        DecisionResponse response = response(2000, 20, null);
+        response.setDegraded(true);
+        assertSameAsJackson(response);
+    }
+
+    @Test
+    void testBoundaryNumbers() throws Exception {
+        assertSameAsJackson(response(0, Integer.MAX_VALUE, null));
+        assertSameAsJackson(response(Integer.MIN_VALUE, -1, null));
+    }
+
+    @Test
+    void testBufferIsReused() throws Exception {
+        writer.encode(response(null, null, "A much longer error message than the approved response"));
+        assertSameAsJackson(response(10000, 12, null));
+    }
+
+    private void assertSameAsJackson(DecisionResponse response) throws Exception {
+        String expected = objectMapper.writeValueAsString(response);
+        String actual = new String(writer.encode(response).toByteArray(), StandardCharsets.UTF_8);
+        assertEquals(expected, actual);
+    }
+
+    private static DecisionResponse response(Integer loanAmount, Integer loanPeriod, String errorMessage) {
+        DecisionResponse response = new DecisionResponse();
+        response.setLoanAmount(loanAmount);
+        response.setLoanPeriod(loanPeriod);
+        response.setErrorMessage(errorMessage);
+        return response;
+    }
+}
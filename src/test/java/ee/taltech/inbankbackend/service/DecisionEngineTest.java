@@ -1,6 +1,7 @@
 package ee.taltech.inbankbackend.service;
 
 import ee.taltech.inbankbackend.config.DecisionEngineConstants;
+import ee.taltech.inbankbackend.exceptions.DeadlineExceededException;
 import ee.taltech.inbankbackend.exceptions.InvalidLoanAmountException;
 import ee.taltech.inbankbackend.exceptions.InvalidLoanPeriodException;
 import ee.taltech.inbankbackend.exceptions.InvalidPersonalCodeException;
@@ -11,8 +12,11 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @ExtendWith(MockitoExtension.class)
 class DecisionEngineTest {
@@ -108,5 +112,23 @@ class DecisionEngineTest {
                 () -> decisionEngine.calculateApprovedLoan(debtorPersonalCode, 10000L, 60));
     }
 
+    @Test
+    void testExpiredDeadline() {
+        assertThrows(DeadlineExceededException.class,
+                () -> decisionEngine.calculateApprovedLoan(segment3PersonalCode, 4000L, 12, Deadline.after(Duration.ZERO)));
+    }
+
+    @Test
+    void testDegradedLoanUsesMinimumSegment() throws InvalidLoanPeriodException, NoValidLoanException,
+            InvalidPersonalCodeException, InvalidLoanAmountException {
+        Decision decision = decisionEngine.calculateDegradedLoan(segment3PersonalCode, 4000L, 12);
+        assertEquals(2000, decision.getLoanAmount());
+        assertEquals(20, decision.getLoanPeriod());
+        assertTrue(decision.isDegraded());
+
+        assertThrows(NoValidLoanException.class,
+                () -> decisionEngine.calculateDegradedLoan(debtorPersonalCode, 4000L, 12));
+    }
+
 }
 
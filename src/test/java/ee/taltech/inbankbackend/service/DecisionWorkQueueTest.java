@@ -0,0 +1,132 @@
+package ee.taltech.inbankbackend.service;
+
+import ee.taltech.inbankbackend.exceptions.DeadlineExceededException;
+import ee.taltech.inbankbackend.exceptions.ServiceOverloadedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.ThrowingSupplier;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DecisionWorkQueueTest {
+
+    private static final String PERSONAL_CODE = "50307172740";
+
+    private DecisionEngine decisionEngine;
+    private DecisionWorkQueue workQueue;
+    private CountDownLatch started;
+    private CountDownLatch release;
+    private ExecutorService clients;
+
+    @BeforeEach
+    void setUp() throws Throwable {
+        decisionEngine = mock(DecisionEngine.class);
+        workQueue = new DecisionWorkQueue(decisionEngine, 1, 1, 1);
+        started = new CountDownLatch(1);
+        release = new CountDownLatch(1);
+        clients = Executors.newFixedThreadPool(2);
+
+        // Every evaluation blocks the single worker until the test releases it.
+        when(decisionEngine.calculateApprovedLoan(anyString(), anyLong(), anyInt(), any(Deadline.class)))
+                .thenAnswer(invocation -> {
+                    started.countDown();
+                    release.await();
+                    return new Decision(2000, 20, null);
+                });
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        clients.shutdownNow();
+        workQueue.shutdown();
+    }
+
+    @Test
+    void testFullQueueIsRefused() throws Exception {
+        Future<Decision> running = inBackground(() -> calculate(Duration.ofSeconds(10)));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        Future<Decision> queued = inBackground(() -> calculate(Duration.ofSeconds(10)));
+        long waitUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (workQueue.getQueuedRequests() == 0 && System.nanoTime() < waitUntil) {
+            Thread.sleep(1);
+        }
+        assertEquals(1, workQueue.getQueuedRequests());
+
+        assertThrows(ServiceOverloadedException.class, () -> calculate(Duration.ofSeconds(10)));
+
+        release.countDown();
+        assertEquals(2000, running.get(5, TimeUnit.SECONDS).getLoanAmount());
+        assertEquals(2000, queued.get(5, TimeUnit.SECONDS).getLoanAmount());
+    }
+
+    @Test
+    void testDeadlineExpiresWhileEvaluating() {
+        assertThrows(DeadlineExceededException.class, () -> calculate(Duration.ofMillis(50)));
+    }
+
+    @Test
+    void testExpiredRequestLeavesQueue() throws Exception {
+        Future<Decision> running = inBackground(() -> calculate(Duration.ofSeconds(10)));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertThrows(DeadlineExceededException.class, () -> calculate(Duration.ofMillis(50)));
+        assertEquals(0, workQueue.getQueuedRequests());
+
+        release.countDown();
+        assertEquals(2000, running.get(5, TimeUnit.SECONDS).getLoanAmount());
+    }
+
+    @Test
+    void testExhaustedFallbackIsRefused() throws Throwable {
+        CountDownLatch fallbackStarted = new CountDownLatch(1);
+        when(decisionEngine.calculateDegradedLoan(anyString(), anyLong(), anyInt()))
+                .thenAnswer(invocation -> {
+                    fallbackStarted.countDown();
+                    release.await();
+                    return new Decision(2000, 20, null, true);
+                });
+
+        Future<Decision> degraded = inBackground(() -> workQueue.calculateDegradedLoan(PERSONAL_CODE, 4000L, 12));
+        assertTrue(fallbackStarted.await(5, TimeUnit.SECONDS));
+
+        assertThrows(ServiceOverloadedException.class, () -> workQueue.calculateDegradedLoan(PERSONAL_CODE, 4000L, 12));
+
+        release.countDown();
+        assertTrue(degraded.get(5, TimeUnit.SECONDS).isDegraded());
+    }
+
+    /**
+     * Runs the call on a client thread, the checked exceptions of the service do not fit a Callable.
+     */
+    private Future<Decision> inBackground(ThrowingSupplier<Decision> call) {
+        return clients.submit(() -> {
+            try {
+                return call.get();
+            } catch (Throwable e) {
+                throw new Exception(e);
+            }
+        });
+    }
+
+    private Decision calculate(Duration timeout) throws Throwable {
+        return workQueue.calculateApprovedLoan(PERSONAL_CODE, 4000L, 12, Deadline.after(timeout));
+    }
+}
@@ -0,0 +1,65 @@
+package ee.taltech.inbankbackend.simulation;
+
+import ee.taltech.inbankbackend.config.LoanPolicy;
+import ee.taltech.inbankbackend.service.DecisionEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PolicySimulatorTest {
+
+    private static final String RECORDS = """
+            {"personalCode": "37605030299", "loanAmount": 4000, "loanPeriod": 12}
+            {"personalCode": "50307172740", "loanAmount": 4000, "loanPeriod": 12}
+            {"personalCode": "50307172740", "loanAmount": 4000, "loanPeriod": 12}
+            {"personalCode": "38411266610", "loanAmount": 4000, "loanPeriod": 12}
+            {"personalCode": "35006069515", "loanAmount": 4000, "loanPeriod": 12}
+            {"personalCode": "12345678901", "loanAmount": 4000, "loanPeriod": 12}
+            """;
+
+    private PolicySimulator simulator;
+
+    @BeforeEach
+    void setUp() {
+        // A batch size smaller than the input makes sure statistics are merged across batches.
+        simulator = new PolicySimulator(new DecisionEngine(), Jackson2ObjectMapperBuilder.json().build(), 4, 2);
+    }
+
+    @Test
+    void testCandidateComparedToCurrentPolicy() throws Exception {
+        Properties overrides = new Properties();
+        overrides.setProperty("SEGMENT_1_CREDIT_MODIFIER", "200");
+        LoanPolicy candidate = LoanPolicy.CURRENT.withOverrides("candidate", overrides);
+
+        SimulationReport report = simulator.simulate(input(), List.of(candidate));
+        PolicyStatistics current = report.getBaseline();
+        PolicyStatistics simulated = report.getCandidates().get(0);
+
+        assertEquals(6, report.getRecords());
+
+        assertEquals(1, current.getRequests(0));
+        assertEquals(0, current.getApproved(0));
+        assertEquals(1, current.getRequests(PolicyStatistics.INVALID_PERSONAL_CODE));
+        assertEquals(0, current.getApproved(PolicyStatistics.INVALID_PERSONAL_CODE));
+
+        assertEquals(2, current.getApproved(1));
+        assertEquals(4000, current.getApprovedVolume(1));
+        assertEquals(8.0, current.getAveragePeriodExtension(1));
+        assertEquals(4800, simulated.getApprovedVolume(1));
+        assertEquals(0.0, simulated.getAveragePeriodExtension(1));
+
+        assertEquals(current.getApprovedVolume(2), simulated.getApprovedVolume(2));
+        assertEquals(10000, simulated.getApprovedVolume(3));
+    }
+
+    private static ByteArrayInputStream input() {
+        return new ByteArrayInputStream(RECORDS.getBytes(StandardCharsets.UTF_8));
+    }
+}